@@ -0,0 +1,157 @@
+package com.logicgate.farm.benchmark;
+
+import com.logicgate.farm.domain.Color;
+import com.logicgate.farm.util.FarmUtils;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Measures how the color filtered queries behind {@code AnimalRepository} and {@code BarnRepository} scale with the
+ * size of the tables, once on the schema as migrated and once after dropping the color indexes. Each table size is
+ * benchmarked against a fresh in-memory H2 database migrated with the application's own migrations.
+ *
+ * <p>Run with {@code ./gradlew queryBenchmark}, optionally passing the animal counts to benchmark
+ * with {@code -PanimalCounts=1000,10000}.</p>
+ */
+public final class QueryBenchmark {
+
+  private static final int[] DEFAULT_ANIMAL_COUNTS = {1_000, 10_000, 100_000, 500_000};
+
+  private static final int WARMUP_ITERATIONS = 50;
+
+  private static final int MEASURED_ITERATIONS = 500;
+
+  private static final int BATCH_SIZE = 1_000;
+
+  private static final Color[] COLORS = Color.values();
+
+  private static final String ANIMALS_BY_COLOR =
+      "select id, barn_id, name, favorite_color from animal where favorite_color = ?";
+
+  private static final String BARNS_BY_COLOR = "select id, name, color, capacity from barn where color = ?";
+
+  /**
+   * This method benchmarks the color queries for each table size, first with and then without the color indexes,
+   *  and prints the median latencies as a table.
+   * @param args The animal counts to benchmark, or none for the default counts
+   * @throws SQLException If the benchmark database cannot be populated or queried
+   */
+  public static void main(String[] args) throws SQLException {
+    final int[] animalCounts = args.length == 0
+        ? DEFAULT_ANIMAL_COUNTS
+        : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+    System.out.printf("%10s %10s %22s %22s%n", "animals", "indexes", "animals by color (us)", "barns by color (us)");
+    for (int animalCount : animalCounts) {
+      final String url = "jdbc:h2:mem:benchmark" + animalCount + ";DB_CLOSE_DELAY=-1";
+      Flyway.configure().dataSource(url, "sa", "").load().migrate();
+
+      try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+        populate(connection, animalCount);
+        report(connection, animalCount, "with");
+
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("drop index idx_barn_color");
+          statement.execute("drop index idx_animal_favorite_color");
+        }
+        report(connection, animalCount, "without");
+
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("shutdown");
+        }
+      }
+    }
+  }
+
+  /**
+   * This method fills the farm with animals spread evenly over the colors, each color housed in full barns.
+   * @param connection The connection to the migrated database
+   * @param animalCount The number of animals to insert
+   */
+  private static void populate(final Connection connection, final int animalCount) throws SQLException {
+    final int animalsPerColor = (animalCount + COLORS.length - 1) / COLORS.length;
+    final int barnsPerColor = Math.max(1, (animalsPerColor + FarmUtils.barnCapacity() - 1) / FarmUtils.barnCapacity());
+
+    connection.setAutoCommit(false);
+    try (PreparedStatement barns = connection.prepareStatement("insert into barn values (?, ?, ?, ?)")) {
+      for (int barn = 0; barn < barnsPerColor * COLORS.length; barn++) {
+        barns.setLong(1, barn + 1);
+        barns.setString(2, "Barn " + barn);
+        barns.setInt(3, barn / barnsPerColor);
+        barns.setInt(4, FarmUtils.barnCapacity());
+        barns.addBatch();
+        if (barn % BATCH_SIZE == BATCH_SIZE - 1) {
+          barns.executeBatch();
+        }
+      }
+      barns.executeBatch();
+    }
+
+    try (PreparedStatement animals = connection.prepareStatement("insert into animal values (?, ?, ?, ?)")) {
+      for (int animal = 0; animal < animalCount; animal++) {
+        final int color = animal % COLORS.length;
+        final int barn = color * barnsPerColor + (animal / COLORS.length) / FarmUtils.barnCapacity();
+        animals.setLong(1, animal + 1);
+        animals.setLong(2, barn + 1);
+        animals.setString(3, FarmUtils.animalName(animal));
+        animals.setInt(4, color);
+        animals.addBatch();
+        if (animal % BATCH_SIZE == BATCH_SIZE - 1) {
+          animals.executeBatch();
+        }
+      }
+      animals.executeBatch();
+    }
+    connection.commit();
+    connection.setAutoCommit(true);
+
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("analyze");
+    }
+  }
+
+  private static void report(final Connection connection, final int animalCount, final String indexes)
+      throws SQLException {
+    System.out.printf("%10d %10s %22.1f %22.1f%n", animalCount, indexes,
+        medianMicros(connection, ANIMALS_BY_COLOR),
+        medianMicros(connection, BARNS_BY_COLOR));
+  }
+
+  /**
+   * This method runs a query for a rotating color and reports its median latency.
+   * @param connection The connection to the populated database
+   * @param sql The query to run, taking a color
+   * @return The median latency in microseconds, including reading every row of the result
+   */
+  private static double medianMicros(final Connection connection, final String sql) throws SQLException {
+    final long[] nanos = new long[MEASURED_ITERATIONS];
+    try (PreparedStatement query = connection.prepareStatement(sql)) {
+      for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASURED_ITERATIONS; iteration++) {
+        query.setInt(1, iteration % COLORS.length);
+
+        final long start = System.nanoTime();
+        try (ResultSet result = query.executeQuery()) {
+          while (result.next()) {
+            result.getLong(1);
+          }
+        }
+        if (iteration >= WARMUP_ITERATIONS) {
+          nanos[iteration - WARMUP_ITERATIONS] = System.nanoTime() - start;
+        }
+      }
+    }
+    Arrays.sort(nanos);
+    return nanos[MEASURED_ITERATIONS / 2] / 1_000.0;
+  }
+
+  private QueryBenchmark() {}
+
+}
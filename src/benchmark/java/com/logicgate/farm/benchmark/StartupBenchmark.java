@@ -0,0 +1,134 @@
+package com.logicgate.farm.benchmark;
+
+import com.logicgate.farm.Application;
+import com.logicgate.farm.config.LazyInitializationBeanFactoryPostProcessor;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Measures cold start of the application: the JVM uptime at which the context is ready and the heap still in use
+ * after boot. Every run is a fresh JVM, once with the default configuration, once with the
+ * {@value LazyInitializationBeanFactoryPostProcessor#PROFILE} profile and, when a class data sharing archive is
+ * available, once more with that profile on top of the archive.
+ *
+ * <p>Run with {@code ./gradlew startupBenchmark}, which builds the archive first when it runs on JDK 11 or later. The
+ * archive's class list is recorded by a single {@value #PROBE} {@value #FAST_STARTUP} run of this class.</p>
+ */
+public final class StartupBenchmark {
+
+  private static final String PROBE = "--probe";
+
+  private static final String FAST_STARTUP = "--fast-startup";
+
+  private static final String RESULT = "startup";
+
+  private static final int RUNS = Integer.getInteger("startup.runs", 5);
+
+  /**
+   * This method either probes a single startup in this JVM, when called with {@value #PROBE}, or starts the
+   *  application in fresh JVMs for every mode and prints the median measurements as a table.
+   * @param args Either {@value #PROBE}, optionally followed by {@value #FAST_STARTUP}, or nothing
+   * @throws IOException If a probe JVM cannot be started or read from
+   * @throws InterruptedException If waiting for a probe JVM is interrupted
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (args.length > 0 && PROBE.equals(args[0])) {
+      probe(args.length > 1 && FAST_STARTUP.equals(args[1]));
+      return;
+    }
+
+    final String java = System.getProperty("startup.java",
+        System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    final String classpath = System.getProperty("startup.classpath", System.getProperty("java.class.path"));
+    final String archive = System.getProperty("startup.cdsArchive");
+
+    System.out.printf("%-24s %16s %16s%n", "mode", "ready (ms)", "heap (KiB)");
+    report("default", java, classpath, Collections.emptyList());
+    report("fast-startup", java, classpath, Collections.emptyList(), FAST_STARTUP);
+    if (archive != null && new File(archive).isFile()) {
+      report("fast-startup + CDS", java, classpath,
+          Arrays.asList("-Xshare:auto", "-XX:SharedArchiveFile=" + archive), FAST_STARTUP);
+    }
+  }
+
+  /**
+   * This method starts the application in this JVM and prints the time it took and the heap it holds on to. The
+   *  application only counts as ready once the persistence layer is usable, since lazily initialized beans may
+   *  otherwise still be outstanding.
+   * @param fastStartup Whether to start the application with the fast startup profile
+   */
+  private static void probe(final boolean fastStartup) {
+    final String[] args = fastStartup
+        ? new String[] {"--spring.profiles.active=" + LazyInitializationBeanFactoryPostProcessor.PROFILE}
+        : new String[0];
+    try (ConfigurableApplicationContext context = SpringApplication.run(Application.class, args)) {
+      context.getBean(EntityManagerFactory.class).createEntityManager().close();
+      final long readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+      System.gc();
+      final long heapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+      System.out.printf("%s %d %d%n", RESULT, readyMillis, heapBytes);
+    }
+  }
+
+  /**
+   * This method starts the application in a fresh JVM per run and prints the median of the measurements.
+   * @param mode The name of the configuration being measured
+   * @param java The java executable to start the application with
+   * @param classpath The classpath of the application and this benchmark
+   * @param jvmOptions The options to start the JVM with
+   * @param probeArgs The arguments to pass on to the probe
+   */
+  private static void report(final String mode, final String java, final String classpath,
+                             final List<String> jvmOptions, final String... probeArgs)
+      throws IOException, InterruptedException {
+    final long[] readyMillis = new long[RUNS];
+    final long[] heapBytes = new long[RUNS];
+    for (int run = 0; run < RUNS; run++) {
+      final List<String> command = new ArrayList<>(Arrays.asList(java, "-cp", classpath));
+      command.addAll(jvmOptions);
+      command.add(StartupBenchmark.class.getName());
+      command.add(PROBE);
+      command.addAll(Arrays.asList(probeArgs));
+
+      final long[] result = measure(command);
+      readyMillis[run] = result[0];
+      heapBytes[run] = result[1];
+    }
+    Arrays.sort(readyMillis);
+    Arrays.sort(heapBytes);
+    System.out.printf("%-24s %16d %16d%n", mode, readyMillis[RUNS / 2], heapBytes[RUNS / 2] / 1024);
+  }
+
+  private static long[] measure(final List<String> command) throws IOException, InterruptedException {
+    final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    long[] result = null;
+    try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+      String line;
+      while ((line = output.readLine()) != null) {
+        if (line.startsWith(RESULT + " ")) {
+          result = Arrays.stream(line.substring(RESULT.length() + 1).split(" ")).mapToLong(Long::parseLong).toArray();
+        }
+      }
+    }
+    if (process.waitFor() != 0 || result == null) {
+      throw new IllegalStateException("Application failed to start: " + String.join(" ", command));
+    }
+    return result;
+  }
+
+  private StartupBenchmark() {}
+
+}
@@ -0,0 +1,40 @@
+package com.logicgate.farm.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Marks application beans as lazily initialized when the {@value #PROFILE} profile is active, so that only the beans
+ * actually used are created during startup. Infrastructure beans are left alone since the container relies on them
+ * being created eagerly, and so are the schema migration and the entity manager factory so that a schema that does
+ * not match the entities still fails startup.
+ */
+@Component
+@Profile(LazyInitializationBeanFactoryPostProcessor.PROFILE)
+public class LazyInitializationBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+  public static final String PROFILE = "fast-startup";
+
+  private static final Set<String> EAGER_BEANS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+      "entityManagerFactory",
+      "flywayInitializer")));
+
+  @Override
+  public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+    Arrays.stream(beanFactory.getBeanDefinitionNames())
+        .filter(beanName -> !EAGER_BEANS.contains(beanName))
+        .map(beanFactory::getBeanDefinition)
+        .filter(beanDefinition -> beanDefinition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE)
+        .forEach(beanDefinition -> beanDefinition.setLazyInit(true));
+  }
+
+}
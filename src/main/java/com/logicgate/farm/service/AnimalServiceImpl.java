@@ -5,15 +5,17 @@ import com.logicgate.farm.domain.Barn;
 import com.logicgate.farm.domain.Color;
 import com.logicgate.farm.repository.AnimalRepository;
 import com.logicgate.farm.repository.BarnRepository;
+import com.logicgate.farm.util.FarmUtils;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @Transactional
@@ -47,12 +49,7 @@ public class AnimalServiceImpl implements AnimalService {
     final List<Barn> barns = barnRepository.findByColor(barnColor);
     final List<Animal> animals = animalRepository.findByFavoriteColor(barnColor);
 
-
     animalRepository.saveAndFlush(animal);
-    if (barns.size() == 0) {
-      barns.add(barnRepository.saveAndFlush(new Barn("Barn " + barnColor.toString() + " 0", barnColor)));
-    }
-    animal.setBarn(barns.get(0));
 
     animals.add(animal);
     redistributeAnimalsOfBarnColor(barnColor, barns, animals);
@@ -87,7 +84,8 @@ public class AnimalServiceImpl implements AnimalService {
   }
 
   /**
-   * This method redistributes all animals into barns.
+   * This method redistributes all animals into barns. The planning itself is done by {@link RedistributionPlanner}
+   *  on barn ids, this method only applies the resulting plan to the entities.
    * @param barnColor The color of barns to redistribute the animals into
    * @param barns The list of barns with the same color as barnColor
    * @param animals The list of animals with the same favorite color as barnColor
@@ -95,94 +93,36 @@ public class AnimalServiceImpl implements AnimalService {
   private void redistributeAnimalsOfBarnColor(final Color barnColor,
                                               final List<Barn> barns,
                                               final List<Animal> animals) {
-    //If there are no animals, clear out the barns
-    if (animals.size() == 0) {
-      barnRepository.deleteAll(barns);
-    } else {
-      //If we don't have any barns, go ahead and create one so that we can pull the barn capacity property.
-      if (barns.size() == 0) {
-        barns.add(barnRepository.saveAndFlush(new Barn("Barn " + barnColor.toString() + " 0", barnColor)));
-      }
-
-      final int barnCapacity = barns.get(0).getCapacity();
-      final int necessaryNumberOfBarns = findNecessaryNumberOfBarns(barnCapacity, animals.size());
-      final int animalsPerBarn = animals.size() / necessaryNumberOfBarns;
-      final int remainderAnimals = animals.size() % necessaryNumberOfBarns;
-      final List<Animal> animalsToRehome = new ArrayList<>();
-      final Map<Barn, List<Animal>> barnToAnimalRelationMap = animals.stream()
-          .collect(Collectors.groupingBy(Animal::getBarn));
-
-      //Adjust the number of barns
-      while (barnToAnimalRelationMap.size() < necessaryNumberOfBarns) {
-        barnToAnimalRelationMap.put(barnRepository
-                                    .saveAndFlush(new Barn("Barn " + barnColor.toString(),
-                                                            barnColor)),
-                                                  new ArrayList<>());
-      }
-
-      if (barnToAnimalRelationMap.size() > necessaryNumberOfBarns) {
-        barnToAnimalRelationMap.keySet().stream().collect(Collectors.toList())
-            .subList(necessaryNumberOfBarns, barnToAnimalRelationMap.size()).forEach(barn -> {
-              barnRepository.delete(barn);
-              animalsToRehome.addAll(barnToAnimalRelationMap.get(barn));
-              barnToAnimalRelationMap.remove(barn);
-            });
-      }
-
-      //Pull all the extra animals out of barns with too many animals.
-      barnToAnimalRelationMap.entrySet().stream()
-          .filter((entry) -> {
-            return (entry.getValue().size() > animalsPerBarn);
-          })
-          .forEach(entry -> {
-            final List<Animal> animalsInBarn = entry.getValue();
-            final List<Animal> overflowAnimals = animalsInBarn.subList(animalsPerBarn, animalsInBarn.size());
-            animalsToRehome.addAll(overflowAnimals);
-          });
-
-      //Put the extra animals into barns with too few animals.
-      barnToAnimalRelationMap.entrySet().stream()
-          .filter((entry) -> {
-            return (entry.getValue().size() < animalsPerBarn);
-          })
-          .forEach(entry -> {
-            final Barn barn = entry.getKey();
-            final List<Animal> animalsInBarn = entry.getValue();
-            final List<Animal> newAnimals = animalsToRehome.subList(0, animalsPerBarn - animalsInBarn.size());
-            newAnimals.forEach(animal -> {
-              animal.setBarn(barn);
-            });
-            //Save all of the animals added to this barn in this foreach
-            animalRepository.saveAll(newAnimals);
-            animalsToRehome.removeAll(newAnimals);
-          });
-
-      //For any remaing animals, put each one in a barn.
-      List<Barn> barnsForRemainingAnimals = new ArrayList<>(barnToAnimalRelationMap.keySet())
-                                                              .subList(0, remainderAnimals);
-      barnsForRemainingAnimals.forEach(barn -> {
-        animalsToRehome.get(barnsForRemainingAnimals.indexOf(barn)).setBarn(barn);
-      });
-
-      //Save the animals that got a home due to being remainders.
-      animalRepository.saveAll(animalsToRehome);
-    }
-  }
-
-  /**
-   * This method provides the minimum number of barns required to house
-   *  all of the animals.
-   * @param barnCapacity The number of animals that can be housed in a barn
-   * @param numberOfAnimals The number of animals to house
-   * @return The minimum number of barns to house all animals within the capacity of each barn
-   */
-  private int findNecessaryNumberOfBarns(final int barnCapacity, final int numberOfAnimals) {
-    int numberOfBarns = numberOfAnimals / barnCapacity;
-    int remainderOfAnimals = numberOfAnimals % barnCapacity;
-    if (remainderOfAnimals > 0) {
-      numberOfBarns++;
-    }
-
-    return numberOfBarns;
+    final Barn[] existingBarns = barns.stream()
+        .sorted(Comparator.comparing(Barn::getId))
+        .toArray(Barn[]::new);
+    final long[] barnIds = Arrays.stream(existingBarns)
+        .mapToLong(Barn::getId)
+        .toArray();
+    final long[] animalBarnIds = animals.stream()
+        .mapToLong(animal -> animal.getBarn() == null ? RedistributionPlanner.NO_BARN : animal.getBarn().getId())
+        .toArray();
+    final int barnCapacity = existingBarns.length == 0 ? FarmUtils.barnCapacity() : existingBarns[0].getCapacity();
+
+    final RedistributionPlan plan = RedistributionPlanner.plan(barnIds, animalBarnIds, barnCapacity);
+
+    //Build any barns the plan asks for.
+    final Barn[] plannedBarns = Arrays.copyOf(existingBarns, plan.getBarnCount());
+    IntStream.range(plan.getExistingBarnCount(), plan.getBarnCount())
+        .forEach(slot -> plannedBarns[slot] = barnRepository
+            .saveAndFlush(new Barn("Barn " + barnColor.toString() + " " + slot, barnColor)));
+
+    //Move the animals that have to change barns.
+    final List<Animal> movedAnimals = IntStream.range(0, animals.size())
+        .filter(plan::isMoved)
+        .mapToObj(index -> animals.get(index).setBarn(plannedBarns[plan.getBarnSlot(index)]))
+        .collect(Collectors.toList());
+    animalRepository.saveAll(movedAnimals);
+
+    //Destroy the barns that are no longer needed now that they are empty.
+    barnRepository.deleteAll(IntStream.range(0, plan.getBarnCount())
+        .filter(plan::isRetired)
+        .mapToObj(slot -> plannedBarns[slot])
+        .collect(Collectors.toList()));
   }
 }
@@ -0,0 +1,103 @@
+package com.logicgate.farm.service;
+
+/**
+ * This class holds the result of {@link RedistributionPlanner#plan(long[], long[], int)}. Barns are addressed by slot:
+ * slots below {@link #getExistingBarnCount()} refer to the barn ids handed to the planner in the same order, any slots
+ * above that are barns that still need to be built. Animals are addressed by their index in the planner's input.
+ */
+public final class RedistributionPlan {
+
+  private final int existingBarnCount;
+
+  private final int[] targetOccupancy;
+
+  private final boolean[] retired;
+
+  private final int[] animalSlots;
+
+  private final boolean[] moved;
+
+  private final int movedAnimalCount;
+
+  RedistributionPlan(int existingBarnCount, int[] targetOccupancy, boolean[] retired,
+                     int[] animalSlots, boolean[] moved, int movedAnimalCount) {
+    this.existingBarnCount = existingBarnCount;
+    this.targetOccupancy = targetOccupancy;
+    this.retired = retired;
+    this.animalSlots = animalSlots;
+    this.moved = moved;
+    this.movedAnimalCount = movedAnimalCount;
+  }
+
+  /**
+   * This method provides the number of barn slots in the plan, including existing barns that must be destroyed
+   *  and new barns that must be built.
+   * @return The total number of barn slots
+   */
+  public int getBarnCount() {
+    return targetOccupancy.length;
+  }
+
+  /**
+   * This method provides the number of barns that already existed when the plan was made.
+   * @return The number of slots that refer to existing barns
+   */
+  public int getExistingBarnCount() {
+    return existingBarnCount;
+  }
+
+  /**
+   * This method tells whether the barn in a slot must be built before any animals can move into it.
+   * @param slot The barn slot
+   * @return True if the slot refers to a barn that does not exist yet
+   */
+  boolean isNew(int slot) {
+    return slot >= existingBarnCount;
+  }
+
+  /**
+   * This method tells whether the barn in a slot is no longer needed and must be destroyed once its
+   *  animals have moved out.
+   * @param slot The barn slot
+   * @return True if the barn should be destroyed
+   */
+  public boolean isRetired(int slot) {
+    return retired[slot];
+  }
+
+  /**
+   * This method provides the number of animals a barn houses once the plan is applied.
+   * @param slot The barn slot
+   * @return The planned occupancy of the barn
+   */
+  int getTargetOccupancy(int slot) {
+    return targetOccupancy[slot];
+  }
+
+  /**
+   * This method provides the barn slot an animal lives in once the plan is applied.
+   * @param animal The index of the animal in the planner's input
+   * @return The barn slot of the animal
+   */
+  public int getBarnSlot(int animal) {
+    return animalSlots[animal];
+  }
+
+  /**
+   * This method tells whether an animal has to move to a different barn, or into a barn for the first time.
+   * @param animal The index of the animal in the planner's input
+   * @return True if the animal's barn changes
+   */
+  public boolean isMoved(int animal) {
+    return moved[animal];
+  }
+
+  /**
+   * This method provides the number of animals whose barn changes.
+   * @return The number of animals that have to move
+   */
+  int getMovedAnimalCount() {
+    return movedAnimalCount;
+  }
+
+}
@@ -0,0 +1,126 @@
+package com.logicgate.farm.service;
+
+import java.util.Arrays;
+
+/**
+ * This class plans how the animals of a single color are spread over their barns. The planner works exclusively on
+ * primitive barn ids and occupancy counts so that a rebalance of a large farm does not allocate anything per animal
+ * beyond a couple of int arrays, and it never relies on the equality or hashing of the persisted entities.
+ */
+public final class RedistributionPlanner {
+
+  /**
+   * The barn id to use for an animal that does not live in a barn yet.
+   */
+  public static final long NO_BARN = -1L;
+
+  private static final int UNASSIGNED = -1;
+
+  /**
+   * This method plans the redistribution of animals over barns. The plan uses the fewest barns that keep every
+   *  barn within capacity, spreads the animals so that occupancies differ by at most one, and moves as few animals
+   *  as possible: the most crowded barns are the ones kept and the ones handed any remainder.
+   * @param barnIds The ids of the existing barns in ascending order
+   * @param animalBarnIds The barn id of every animal, or {@link #NO_BARN} for animals without a barn
+   * @param barnCapacity The number of animals a single barn can house
+   * @return The plan for the animals and barns of a single color
+   */
+  public static RedistributionPlan plan(final long[] barnIds, final long[] animalBarnIds, final int barnCapacity) {
+    if (barnCapacity <= 0) {
+      throw new IllegalArgumentException("Barn capacity must be positive: " + barnCapacity);
+    }
+
+    final int existingBarnCount = barnIds.length;
+    final int animalCount = animalBarnIds.length;
+    final int necessaryBarnCount = findNecessaryNumberOfBarns(barnCapacity, animalCount);
+    final int barnCount = Math.max(existingBarnCount, necessaryBarnCount);
+
+    //Resolve every animal to the slot of its current barn and count the occupancy of each barn.
+    final int[] animalSlots = new int[animalCount];
+    final int[] occupancy = new int[barnCount];
+    for (int animal = 0; animal < animalCount; animal++) {
+      final long barnId = animalBarnIds[animal];
+      final int slot = barnId == NO_BARN ? UNASSIGNED : Arrays.binarySearch(barnIds, barnId);
+      animalSlots[animal] = slot < 0 ? UNASSIGNED : slot;
+      if (slot >= 0) {
+        occupancy[slot]++;
+      }
+    }
+
+    //Rank the existing barns from most to least crowded, ties broken by slot, without boxing the slots.
+    final long[] ranking = new long[existingBarnCount];
+    for (int slot = 0; slot < existingBarnCount; slot++) {
+      ranking[slot] = ((long) (Integer.MAX_VALUE - occupancy[slot]) << Integer.SIZE) | slot;
+    }
+    Arrays.sort(ranking);
+
+    final int[] targetOccupancy = new int[barnCount];
+    final boolean[] retired = new boolean[barnCount];
+    if (necessaryBarnCount > 0) {
+      final int animalsPerBarn = animalCount / necessaryBarnCount;
+      int remainderAnimals = animalCount % necessaryBarnCount;
+      for (int rank = 0; rank < existingBarnCount; rank++) {
+        final int slot = (int) ranking[rank];
+        if (rank < necessaryBarnCount) {
+          targetOccupancy[slot] = animalsPerBarn + (remainderAnimals-- > 0 ? 1 : 0);
+        } else {
+          retired[slot] = true;
+        }
+      }
+      for (int slot = existingBarnCount; slot < barnCount; slot++) {
+        targetOccupancy[slot] = animalsPerBarn + (remainderAnimals-- > 0 ? 1 : 0);
+      }
+    } else {
+      Arrays.fill(retired, true);
+    }
+
+    //Leave animals where they are while their barn has room for them, everyone else has to move.
+    final int[] filled = new int[barnCount];
+    final boolean[] moved = new boolean[animalCount];
+    int movedAnimalCount = 0;
+    for (int animal = 0; animal < animalCount; animal++) {
+      final int slot = animalSlots[animal];
+      if (slot != UNASSIGNED && filled[slot] < targetOccupancy[slot]) {
+        filled[slot]++;
+      } else {
+        animalSlots[animal] = UNASSIGNED;
+        moved[animal] = true;
+        movedAnimalCount++;
+      }
+    }
+
+    //Move the displaced animals into the barns that are still short of their target.
+    int slot = 0;
+    for (int animal = 0; animal < animalCount; animal++) {
+      if (animalSlots[animal] == UNASSIGNED) {
+        while (filled[slot] >= targetOccupancy[slot]) {
+          slot++;
+        }
+        animalSlots[animal] = slot;
+        filled[slot]++;
+      }
+    }
+
+    return new RedistributionPlan(existingBarnCount, targetOccupancy, retired, animalSlots, moved, movedAnimalCount);
+  }
+
+  /**
+   * This method provides the minimum number of barns required to house
+   *  all of the animals.
+   * @param barnCapacity The number of animals that can be housed in a barn
+   * @param numberOfAnimals The number of animals to house
+   * @return The minimum number of barns to house all animals within the capacity of each barn
+   */
+  static int findNecessaryNumberOfBarns(final int barnCapacity, final int numberOfAnimals) {
+    int numberOfBarns = numberOfAnimals / barnCapacity;
+    int remainderOfAnimals = numberOfAnimals % barnCapacity;
+    if (remainderOfAnimals > 0) {
+      numberOfBarns++;
+    }
+
+    return numberOfBarns;
+  }
+
+  private RedistributionPlanner() {}
+
+}
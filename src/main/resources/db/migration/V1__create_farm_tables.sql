@@ -0,0 +1,24 @@
+create sequence hibernate_sequence start with 1 increment by 1;
+
+create table barn (
+  id bigint not null,
+  name varchar(255),
+  color integer,
+  capacity integer,
+  primary key (id)
+);
+
+create table animal (
+  id bigint not null,
+  barn_id bigint,
+  name varchar(255),
+  favorite_color integer,
+  primary key (id),
+  constraint fk_animal_barn foreign key (barn_id) references barn (id)
+);
+
+-- BarnRepository.findByColor
+create index idx_barn_color on barn (color);
+
+-- AnimalRepository.findByFavoriteColor
+create index idx_animal_favorite_color on animal (favorite_color);
@@ -0,0 +1,72 @@
+package com.logicgate.farm;
+
+import com.logicgate.farm.config.LazyInitializationBeanFactoryPostProcessor;
+import com.logicgate.farm.domain.Animal;
+import com.logicgate.farm.service.AnimalService;
+import com.logicgate.farm.util.FarmUtils;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.hibernate.tool.schema.spi.SchemaManagementException;
+import org.junit.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class FastStartupTest {
+
+  private static final int ANIMAL_SEED = 100;
+
+  @Test
+  public void fastStartup_AddsAnimalsToFarm() {
+    try (ConfigurableApplicationContext context = run("fastStartup")) {
+      final AnimalService animalService = context.getBean(AnimalService.class);
+      animalService.addToFarm(IntStream.range(0, ANIMAL_SEED)
+          .mapToObj(value -> new Animal(FarmUtils.animalName(value), FarmUtils.randomColor()))
+          .collect(Collectors.toList()));
+
+      assertThat(animalService.findAll().size(), is(ANIMAL_SEED));
+    }
+  }
+
+  @Test
+  public void fastStartup_InitializesSchemaBeansEagerly() {
+    try (ConfigurableApplicationContext context = run("lazyInitialization")) {
+      final ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+
+      assertThat("Application beans should be lazy.",
+          beanFactory.getBeanDefinition("animalServiceImpl").isLazyInit(), is(true));
+      assertThat("The schema should be validated at startup.",
+          beanFactory.getBeanDefinition("entityManagerFactory").isLazyInit(), is(false));
+      assertThat("The schema should be migrated at startup.",
+          beanFactory.getBeanDefinition("flywayInitializer").isLazyInit(), is(false));
+    }
+  }
+
+  @Test
+  public void fastStartup_FailsWhenSchemaHasDrifted() {
+    try {
+      run("drifted", "--spring.flyway.locations=classpath:db/drifted").close();
+      fail("Startup should fail when the schema does not match the entities.");
+    } catch (BeanCreationException ex) {
+      assertThat(ExceptionUtils.indexOfThrowable(ex, SchemaManagementException.class), greaterThanOrEqualTo(0));
+    }
+  }
+
+  private static ConfigurableApplicationContext run(String database, String... args) {
+    final String[] arguments = new String[args.length + 2];
+    arguments[0] = "--spring.profiles.active=" + LazyInitializationBeanFactoryPostProcessor.PROFILE;
+    arguments[1] = "--spring.datasource.url=jdbc:h2:mem:" + database;
+    System.arraycopy(args, 0, arguments, 2, args.length);
+    return SpringApplication.run(Application.class, arguments);
+  }
+
+}
@@ -0,0 +1,215 @@
+package com.logicgate.farm.service;
+
+import com.logicgate.farm.util.FarmUtils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class RedistributionPlannerTest {
+
+  private static final int TRIALS = 2000;
+  private static final int MAX_BARNS = 12;
+  private static final int MAX_CAPACITY = 25;
+  private static final int SMALL_MAX_BARNS = 5;
+  private static final int SMALL_MAX_CAPACITY = 6;
+
+  @Test
+  public void plan_RandomFarmsSatisfyInvariants() {
+    final Random random = new Random(20190201L);
+    IntStream.range(0, TRIALS).forEach(trial -> {
+      final int barnCapacity = 1 + random.nextInt(MAX_CAPACITY);
+      final long[] barnIds = randomBarnIds(random, random.nextInt(MAX_BARNS + 1));
+      final long[] animalBarnIds = randomAnimals(random, barnIds, barnCapacity);
+
+      checkPlan(barnIds, animalBarnIds, barnCapacity,
+          RedistributionPlanner.plan(barnIds, animalBarnIds, barnCapacity));
+    });
+  }
+
+  @Test
+  public void plan_SmallFarmsMoveFewestAnimals() {
+    final Random random = new Random(20190202L);
+    IntStream.range(0, TRIALS).forEach(trial -> {
+      final int barnCapacity = 1 + random.nextInt(SMALL_MAX_CAPACITY);
+      final long[] barnIds = randomBarnIds(random, random.nextInt(SMALL_MAX_BARNS + 1));
+      final long[] animalBarnIds = randomAnimals(random, barnIds, barnCapacity);
+
+      final RedistributionPlan plan = RedistributionPlanner.plan(barnIds, animalBarnIds, barnCapacity);
+
+      assertThat("Animals should only move when they have to.", plan.getMovedAnimalCount(),
+          is(minimumMoves(barnIds, animalBarnIds, barnCapacity)));
+    });
+  }
+
+  @Test
+  public void plan_AddingToFullBarnSplitsIt() {
+    final long[] barnIds = {7L};
+    final long[] animalBarnIds = new long[FarmUtils.barnCapacity() + 1];
+    IntStream.range(0, FarmUtils.barnCapacity()).forEach(animal -> animalBarnIds[animal] = 7L);
+    animalBarnIds[FarmUtils.barnCapacity()] = RedistributionPlanner.NO_BARN;
+
+    final RedistributionPlan plan = RedistributionPlanner.plan(barnIds, animalBarnIds, FarmUtils.barnCapacity());
+
+    assertThat(plan.getBarnCount(), is(2));
+    assertThat(plan.isNew(1), is(true));
+    assertThat(plan.getTargetOccupancy(0), is(11));
+    assertThat(plan.getTargetOccupancy(1), is(10));
+    assertThat(plan.getMovedAnimalCount(), is(10));
+  }
+
+  @Test
+  public void plan_RemovingConsolidatesBarns() {
+    final long[] barnIds = {1L, 2L, 3L, 4L};
+    final int[] occupancy = {15, 15, 15, 15};
+    final long[] animalBarnIds = IntStream.range(0, barnIds.length)
+        .flatMap(slot -> IntStream.range(0, occupancy[slot]).map(animal -> slot))
+        .mapToLong(slot -> barnIds[slot])
+        .toArray();
+
+    final RedistributionPlan plan = RedistributionPlanner.plan(barnIds, animalBarnIds, FarmUtils.barnCapacity());
+
+    assertThat(plan.getBarnCount(), is(4));
+    assertThat(plan.isRetired(3), is(true));
+    assertThat(plan.getMovedAnimalCount(), is(15));
+    IntStream.range(0, 3).forEach(slot -> assertThat(plan.getTargetOccupancy(slot), is(20)));
+  }
+
+  @Test
+  public void plan_NoAnimalsRetiresEveryBarn() {
+    final RedistributionPlan plan = RedistributionPlanner.plan(new long[] {1L, 2L}, new long[0],
+        FarmUtils.barnCapacity());
+
+    assertThat(plan.getBarnCount(), is(2));
+    assertThat(plan.isRetired(0), is(true));
+    assertThat(plan.isRetired(1), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void plan_RejectsNonPositiveCapacity() {
+    RedistributionPlanner.plan(new long[0], new long[] {RedistributionPlanner.NO_BARN}, 0);
+  }
+
+  private static long[] randomBarnIds(Random random, int barnCount) {
+    final long[] barnIds = new long[barnCount];
+    long barnId = 0L;
+    for (int slot = 0; slot < barnCount; slot++) {
+      barnId += 1 + random.nextInt(5);
+      barnIds[slot] = barnId;
+    }
+    return barnIds;
+  }
+
+  private static long[] randomAnimals(Random random, long[] barnIds, int barnCapacity) {
+    //Allow more animals than the barns can hold so that both new and retired barns get exercised.
+    final int animalCount = random.nextInt((barnIds.length + 2) * barnCapacity + 1);
+    final long[] animalBarnIds = new long[animalCount];
+    for (int animal = 0; animal < animalCount; animal++) {
+      animalBarnIds[animal] = barnIds.length == 0 || random.nextInt(10) == 0
+          ? RedistributionPlanner.NO_BARN
+          : barnIds[random.nextInt(barnIds.length)];
+    }
+    return animalBarnIds;
+  }
+
+  /**
+   * This method finds the fewest moves of any valid redistribution by trying every choice of barns to keep and
+   *  every choice of barns to receive the remainder animals.
+   * @param barnIds The ids of the existing barns in ascending order
+   * @param animalBarnIds The barn id of every animal
+   * @param barnCapacity The number of animals a single barn can house
+   * @return The minimum number of animals that have to move
+   */
+  private static int minimumMoves(long[] barnIds, long[] animalBarnIds, int barnCapacity) {
+    final int animalCount = animalBarnIds.length;
+    final int necessaryBarnCount = (animalCount + barnCapacity - 1) / barnCapacity;
+    if (necessaryBarnCount == 0) {
+      return 0;
+    }
+    final int animalsPerBarn = animalCount / necessaryBarnCount;
+    final int remainderAnimals = animalCount % necessaryBarnCount;
+    final int[] previousOccupancy = new int[barnIds.length];
+    for (long barnId : animalBarnIds) {
+      final int slot = Arrays.binarySearch(barnIds, barnId);
+      if (slot >= 0) {
+        previousOccupancy[slot]++;
+      }
+    }
+
+    int minimum = Integer.MAX_VALUE;
+    for (int keptBarns = 0; keptBarns < 1 << barnIds.length; keptBarns++) {
+      if (Integer.bitCount(keptBarns) > necessaryBarnCount) {
+        continue;
+      }
+      //Kept barns come first, any barns still missing are built empty.
+      final int[] occupancy = new int[necessaryBarnCount];
+      int barn = 0;
+      for (int slot = 0; slot < barnIds.length; slot++) {
+        if ((keptBarns & 1 << slot) != 0) {
+          occupancy[barn++] = previousOccupancy[slot];
+        }
+      }
+      for (int remainderBarns = 0; remainderBarns < 1 << necessaryBarnCount; remainderBarns++) {
+        if (Integer.bitCount(remainderBarns) != remainderAnimals) {
+          continue;
+        }
+        int stayingAnimals = 0;
+        for (barn = 0; barn < necessaryBarnCount; barn++) {
+          final int target = animalsPerBarn + ((remainderBarns & 1 << barn) != 0 ? 1 : 0);
+          stayingAnimals += Math.min(occupancy[barn], target);
+        }
+        minimum = Math.min(minimum, animalCount - stayingAnimals);
+      }
+    }
+    return minimum;
+  }
+
+  private static void checkPlan(long[] barnIds, long[] animalBarnIds, int barnCapacity, RedistributionPlan plan) {
+    final int animalCount = animalBarnIds.length;
+    final int necessaryBarnCount = (animalCount + barnCapacity - 1) / barnCapacity;
+    final int[] occupancy = new int[plan.getBarnCount()];
+    int movedAnimalCount = 0;
+
+    assertThat("Existing barns should keep their slots.", plan.getExistingBarnCount(), is(barnIds.length));
+    for (int animal = 0; animal < animalCount; animal++) {
+      final int slot = plan.getBarnSlot(animal);
+      assertThat("Animals should not move into retired barns.", plan.isRetired(slot), is(false));
+      occupancy[slot]++;
+
+      final boolean stayed = !plan.isNew(slot) && barnIds[slot] == animalBarnIds[animal];
+      assertThat("Only animals changing barns should be moved.", plan.isMoved(animal), is(!stayed));
+      if (!stayed) {
+        movedAnimalCount++;
+      }
+    }
+    assertThat(plan.getMovedAnimalCount(), is(movedAnimalCount));
+
+    int minimum = Integer.MAX_VALUE;
+    int maximum = 0;
+    int activeBarnCount = 0;
+    for (int slot = 0; slot < plan.getBarnCount(); slot++) {
+      assertThat("Plans should match their targets.", occupancy[slot], is(plan.getTargetOccupancy(slot)));
+      assertThat("Barns should not exceed capacity.", occupancy[slot], lessThanOrEqualTo(barnCapacity));
+      assertThat("New barns should not be retired.", plan.isNew(slot) && plan.isRetired(slot), is(false));
+      if (plan.isRetired(slot)) {
+        assertThat("Retired barns should be empty.", occupancy[slot], is(0));
+      } else {
+        assertThat("No barns should be empty.", occupancy[slot] > 0, is(true));
+        minimum = Math.min(minimum, occupancy[slot]);
+        maximum = Math.max(maximum, occupancy[slot]);
+        activeBarnCount++;
+      }
+    }
+    assertThat("Optimal barns should exist for capacity requirements.", activeBarnCount, is(necessaryBarnCount));
+    if (activeBarnCount > 0) {
+      assertThat("Animal distribution should maximize free barn space.", maximum - minimum, lessThanOrEqualTo(1));
+    }
+  }
+
+}